@@ -7,15 +7,21 @@ import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import org.hibernate.annotations.CreationTimestamp;
+import com.schnitzel.Blockchain.search.PatientSearchIndexListener;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.Period;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
 @Entity
-@Table(name = "patients")
+@Table(name = "patients", indexes = {
+        @Index(name = "idx_patients_date_of_birth", columnList = "date_of_birth"),
+        @Index(name = "idx_patients_phone_number", columnList = "phone_number")
+})
+@EntityListeners(PatientSearchIndexListener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -61,9 +67,19 @@ public class Patient {
     @OneToMany(mappedBy = "patient", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<MedicalRecord> medicalRecords = new ArrayList<>();
 
+    // Lower-cased, whitespace-collapsed full name used for prefix search (trigram index in db/patient-search-indexes.sql)
+    @Column(name = "normalized_full_name", length = 152)
+    private String normalizedFullName;
+
     @CreationTimestamp
     private LocalDateTime createdAt;
 
+    @PrePersist
+    @PreUpdate
+    void refreshNormalizedFullName() {
+        normalizedFullName = normalize(getFullName());
+    }
+
     // Calculate age dynamically
     public int getAge() {
         return Period.between(dateOfBirth, LocalDate.now()).getYears();
@@ -71,10 +87,49 @@ public class Patient {
 
     // Full name
     public String getFullName() {
-        return String.format("%s %s %s",
-                firstName,
-                middleName != null ? middleName : "",
-                lastName
-        ).replaceAll("\\s+", " ").trim();
+        return joinName(firstName, middleName, lastName);
+    }
+
+    /**
+     * Joins the name parts with single spaces, skipping blank parts
+     * Avoids the regex replaceAll since this runs for every row in a list
+     */
+    public static String joinName(String firstName, String middleName, String lastName) {
+        StringBuilder builder = new StringBuilder(64);
+        appendNamePart(builder, firstName);
+        appendNamePart(builder, middleName);
+        appendNamePart(builder, lastName);
+        return builder.toString();
+    }
+
+    /**
+     * Normalize a name or search query: lower case, trimmed, single spaces
+     */
+    public static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        StringBuilder builder = new StringBuilder(value.length());
+        appendNamePart(builder, value);
+        return builder.toString().toLowerCase(Locale.ROOT);
+    }
+
+    private static void appendNamePart(StringBuilder builder, String part) {
+        if (part == null) {
+            return;
+        }
+        boolean pendingSpace = builder.length() > 0;
+        for (int i = 0; i < part.length(); i++) {
+            char c = part.charAt(i);
+            if (Character.isWhitespace(c)) {
+                pendingSpace = builder.length() > 0;
+                continue;
+            }
+            if (pendingSpace) {
+                builder.append(' ');
+                pendingSpace = false;
+            }
+            builder.append(c);
+        }
     }
 }
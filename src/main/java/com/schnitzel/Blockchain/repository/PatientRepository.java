@@ -0,0 +1,54 @@
+package com.schnitzel.Blockchain.repository;
+
+import com.schnitzel.Blockchain.entity.Patient;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface PatientRepository extends JpaRepository<Patient, Long> {
+
+    /**
+     * Same matching and order as PatientSearchIndex: the normalized name has a word starting
+     * with the prefix, ordered by the smallest matching word suffix (code point order) then id
+     * Both LIKEs are served by the trigram index in db/patient-search-indexes.sql
+     * The prefix must already be normalized and LIKE-escaped
+     */
+    String NAME_PREFIX_QUERY = """
+            SELECT p.* FROM patients p
+            CROSS JOIN LATERAL (
+                SELECT min(substr(p.normalized_full_name, s.i) COLLATE "C") AS term
+                FROM generate_series(1, length(p.normalized_full_name)) AS s(i)
+                WHERE (s.i = 1 OR substr(p.normalized_full_name, s.i - 1, 1) = ' ')
+                  AND substr(p.normalized_full_name, s.i) LIKE :prefix || '%'
+            ) m
+            WHERE p.normalized_full_name LIKE :prefix || '%'
+               OR p.normalized_full_name LIKE '% ' || :prefix || '%'
+            ORDER BY m.term, p.id
+            """;
+
+    @Query(value = NAME_PREFIX_QUERY, nativeQuery = true)
+    Slice<Patient> searchByNamePrefix(@Param("prefix") String prefix, Pageable pageable);
+
+    List<Patient> findByDateOfBirth(LocalDate dateOfBirth);
+
+    List<Patient> findByPhoneNumber(String phoneNumber);
+
+    List<Patient> findByEmailIgnoreCase(String email);
+
+    // Keyset scan used to warm the in-memory search index without loading full entities
+    List<PatientNameView> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    interface PatientNameView {
+        Long getId();
+        String getFirstName();
+        String getMiddleName();
+        String getLastName();
+    }
+}
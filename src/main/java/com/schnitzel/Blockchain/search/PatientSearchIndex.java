@@ -0,0 +1,223 @@
+package com.schnitzel.Blockchain.search;
+
+import com.schnitzel.Blockchain.entity.Patient;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * In-memory prefix index over normalized patient names
+ * Every patient is indexed under each suffix of its full name that starts at a word,
+ * e.g. "john q smith", "q smith" and "smith", kept sorted so a prefix query is a
+ * range scan returning the first k matches
+ *
+ * Suffixes are (name, offset) views over the patient's single normalized name string,
+ * so no per-word strings are allocated; names and tokens are not shared between patients.
+ * Expect roughly 300 bytes of heap per patient with a three part name: about 60 bytes
+ * per suffix entry, about 55 for the id map entry and about 55 for the name string,
+ * i.e. around 300 MB at 1M patients
+ */
+@Component
+public class PatientSearchIndex {
+
+    private static final String MAX_CODE_POINT = new String(Character.toChars(Character.MAX_CODE_POINT));
+
+    private static final Comparator<Entry> ENTRY_ORDER = PatientSearchIndex::compareEntries;
+
+    private final NavigableSet<Entry> entries = new ConcurrentSkipListSet<>(ENTRY_ORDER);
+
+    // Indexed full name per patient, so updates can drop stale suffixes
+    private final Map<Long, String> namesByPatient = new ConcurrentHashMap<>();
+
+    // Ids written through put/remove while the startup load runs; the load must not overwrite them
+    private final Set<Long> touchedDuringLoad = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean loading = false;
+
+    private volatile boolean ready = false;
+
+    /**
+     * Add or replace a patient in the index
+     */
+    public void put(Long patientId, String firstName, String middleName, String lastName) {
+        if (patientId == null) {
+            return;
+        }
+        String name = normalizedName(firstName, middleName, lastName);
+        namesByPatient.compute(patientId, (id, previous) -> {
+            markTouched(id);
+            return replace(id, previous, name);
+        });
+    }
+
+    /**
+     * Remove a patient from the index
+     */
+    public void remove(Long patientId) {
+        if (patientId == null) {
+            return;
+        }
+        // compute rather than computeIfPresent so a delete before the load reaches the row is still recorded
+        namesByPatient.compute(patientId, (id, previous) -> {
+            markTouched(id);
+            return replace(id, previous, "");
+        });
+    }
+
+    /**
+     * Add a patient read by the startup load
+     * Skipped when the patient was saved or deleted after the load started, since the
+     * row the load read may be older than what the listener already applied
+     */
+    void load(Long patientId, String firstName, String middleName, String lastName) {
+        if (patientId == null) {
+            return;
+        }
+        String name = normalizedName(firstName, middleName, lastName);
+        namesByPatient.compute(patientId, (id, previous) ->
+                touchedDuringLoad.contains(id) ? previous : replace(id, previous, name));
+    }
+
+    /**
+     * Find patient ids with a name word starting a match for the query
+     * ("jo", "smi", "john sm", "q smith"), ordered by the matched suffix then id
+     * Fetches one extra id so callers can tell whether another page exists
+     */
+    public List<Long> search(String query, int page, int size) {
+        String prefix = Patient.normalize(query);
+        if (prefix.isEmpty() || size <= 0 || page < 0) {
+            return Collections.emptyList();
+        }
+
+        long skip = (long) page * size;
+        int limit = size + 1;
+        Set<Long> seen = new LinkedHashSet<>();
+        List<Long> results = new ArrayList<>(limit);
+
+        // Every suffix starting with the prefix sorts before prefix + the largest code point
+        NavigableSet<Entry> range = entries.subSet(
+                new Entry(prefix, 0, Long.MIN_VALUE), true,
+                new Entry(prefix + MAX_CODE_POINT, 0, Long.MIN_VALUE), false);
+
+        for (Entry entry : range) {
+            // A patient can match on several words; only count it once
+            if (!seen.add(entry.patientId())) {
+                continue;
+            }
+            if (seen.size() <= skip) {
+                continue;
+            }
+            results.add(entry.patientId());
+            if (results.size() == limit) {
+                break;
+            }
+        }
+        return results;
+    }
+
+    public int size() {
+        return namesByPatient.size();
+    }
+
+    /**
+     * Whether the initial load has finished and search results are complete
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    void beginLoad() {
+        loading = true;
+    }
+
+    void markReady() {
+        ready = true;
+        loading = false;
+        touchedDuringLoad.clear();
+    }
+
+    void abortLoad() {
+        loading = false;
+        touchedDuringLoad.clear();
+    }
+
+    private void markTouched(Long patientId) {
+        if (loading) {
+            touchedDuringLoad.add(patientId);
+        }
+    }
+
+    // Swap the indexed suffixes for a patient; an empty name removes it
+    private String replace(long patientId, String previous, String name) {
+        // Most updates touch other fields; re-adding the same suffixes would briefly hide the patient from search
+        if (name.equals(previous)) {
+            return previous;
+        }
+        if (previous != null) {
+            removeEntries(previous, patientId);
+        }
+        if (name.isEmpty()) {
+            return null;
+        }
+        addEntries(name, patientId);
+        return name;
+    }
+
+    private static String normalizedName(String firstName, String middleName, String lastName) {
+        return Patient.normalize(Patient.joinName(firstName, middleName, lastName));
+    }
+
+    private void addEntries(String name, long patientId) {
+        for (int offset = 0; offset >= 0; offset = nextWord(name, offset)) {
+            entries.add(new Entry(name, offset, patientId));
+        }
+    }
+
+    private void removeEntries(String name, long patientId) {
+        for (int offset = 0; offset >= 0; offset = nextWord(name, offset)) {
+            entries.remove(new Entry(name, offset, patientId));
+        }
+    }
+
+    // Normalized names use single spaces, so the next word starts right after one
+    private static int nextWord(String name, int offset) {
+        int space = name.indexOf(' ', offset);
+        return space < 0 ? -1 : space + 1;
+    }
+
+    // Compares name.substring(offset) by code point, the order of COLLATE "C" on UTF-8,
+    // without allocating the substrings
+    private static int compareEntries(Entry a, Entry b) {
+        String left = a.name();
+        String right = b.name();
+        int i = a.offset();
+        int j = b.offset();
+        while (i < left.length() && j < right.length()) {
+            int l = left.codePointAt(i);
+            int r = right.codePointAt(j);
+            if (l != r) {
+                return Integer.compare(l, r);
+            }
+            i += Character.charCount(l);
+            j += Character.charCount(r);
+        }
+        boolean leftDone = i >= left.length();
+        boolean rightDone = j >= right.length();
+        if (leftDone != rightDone) {
+            return leftDone ? -1 : 1;
+        }
+        return Long.compare(a.patientId(), b.patientId());
+    }
+
+    private record Entry(String name, int offset, long patientId) {
+    }
+}
@@ -0,0 +1,54 @@
+package com.schnitzel.Blockchain.search;
+
+import com.schnitzel.Blockchain.entity.Patient;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA entity listener that keeps the in-memory patient search index in step with the database
+ * Changes are applied after commit so rolled back writes never show up in search results
+ *
+ * Limitation: afterCommit callbacks of two transactions updating the same patient are not
+ * ordered, so the older name can be applied last and stay indexed until the patient is saved
+ * again or the app restarts. Concurrent renames of one patient are rare at the front desk
+ */
+@Component
+public class PatientSearchIndexListener {
+
+    @Autowired
+    private PatientSearchIndex patientSearchIndex;
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Patient patient) {
+        Long id = patient.getId();
+        String firstName = patient.getFirstName();
+        String middleName = patient.getMiddleName();
+        String lastName = patient.getLastName();
+        afterCommit(() -> patientSearchIndex.put(id, firstName, middleName, lastName));
+    }
+
+    @PostRemove
+    public void onRemove(Patient patient) {
+        Long id = patient.getId();
+        afterCommit(() -> patientSearchIndex.remove(id));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
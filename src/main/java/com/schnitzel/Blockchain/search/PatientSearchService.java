@@ -0,0 +1,145 @@
+package com.schnitzel.Blockchain.search;
+
+import com.schnitzel.Blockchain.entity.Patient;
+import com.schnitzel.Blockchain.repository.PatientRepository;
+import com.schnitzel.Blockchain.repository.PatientRepository.PatientNameView;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Patient lookup for the front desk
+ * Name searches are answered from the in-memory prefix index and hydrated by id,
+ * falling back to the indexed database query until the index has been loaded
+ * DOB, phone and email are exact matches served by database indexes
+ */
+@Service
+public class PatientSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PatientSearchService.class);
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private PatientSearchIndex patientSearchIndex;
+
+    @Value("${patient.search.index.load-batch-size:5000}")
+    private int loadBatchSize;
+
+    /**
+     * Load every patient name into the search index on startup
+     * Reads in id order with keyset pagination so memory stays bounded at 1M+ rows
+     * Writes committed while loading go straight to the index and the load skips those ids
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadIndex() {
+        try {
+            logger.info("Loading patient search index...");
+            long start = System.currentTimeMillis();
+            patientSearchIndex.beginLoad();
+            long lastId = 0L;
+            List<PatientNameView> batch;
+            do {
+                batch = patientRepository.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, loadBatchSize));
+                for (PatientNameView view : batch) {
+                    patientSearchIndex.load(view.getId(), view.getFirstName(), view.getMiddleName(), view.getLastName());
+                    lastId = view.getId();
+                }
+            } while (batch.size() == loadBatchSize);
+
+            patientSearchIndex.markReady();
+            logger.info("Patient search index loaded with {} patients in {} ms",
+                       patientSearchIndex.size(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            patientSearchIndex.abortLoad();
+            logger.error("Failed to load patient search index, name searches will use the database", e);
+        }
+    }
+
+    /**
+     * Search patients by name prefix, e.g. "jo", "smi" or "john sm"
+     * Matches any word of the name, ordered by the matched part then id
+     */
+    @Transactional(readOnly = true)
+    public Slice<Patient> searchByName(String query, int page, int size) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        PageRequest pageable = PageRequest.of(Math.max(page, 0), pageSize);
+
+        // Both paths must agree, and a blank query would otherwise page through every patient
+        String prefix = Patient.normalize(query);
+        if (prefix.isEmpty()) {
+            return new SliceImpl<>(Collections.emptyList(), pageable, false);
+        }
+
+        if (!patientSearchIndex.isReady()) {
+            return patientRepository.searchByNamePrefix(escapeLike(prefix), pageable);
+        }
+
+        List<Long> ids = patientSearchIndex.search(prefix, pageable.getPageNumber(), pageSize);
+        boolean hasNext = ids.size() > pageSize;
+        if (hasNext) {
+            ids = ids.subList(0, pageSize);
+        }
+
+        // findAllById does not keep order, so put the rows back in index order
+        Map<Long, Patient> byId = patientRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Patient::getId, Function.identity()));
+        List<Patient> patients = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Patient patient = byId.get(id);
+            // A missing row may be an uncommitted delete in the caller's transaction;
+            // leave the index alone, PatientSearchIndexListener removes it on commit
+            if (patient != null) {
+                patients.add(patient);
+            }
+        }
+        return new SliceImpl<>(patients, pageable, hasNext);
+    }
+
+    @Transactional(readOnly = true)
+    public List<Patient> searchByDateOfBirth(LocalDate dateOfBirth) {
+        if (dateOfBirth == null) {
+            return Collections.emptyList();
+        }
+        return patientRepository.findByDateOfBirth(dateOfBirth);
+    }
+
+    @Transactional(readOnly = true)
+    public List<Patient> searchByPhoneNumber(String phoneNumber) {
+        if (phoneNumber == null || phoneNumber.isBlank()) {
+            return Collections.emptyList();
+        }
+        return patientRepository.findByPhoneNumber(phoneNumber.replace(" ", "").replace("-", ""));
+    }
+
+    @Transactional(readOnly = true)
+    public List<Patient> searchByEmail(String email) {
+        if (email == null || email.isBlank()) {
+            return Collections.emptyList();
+        }
+        return patientRepository.findByEmailIgnoreCase(email.trim());
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,28 @@
+-- Patient search backfill and the indexes that JPA @Index cannot express.
+-- Runs on every startup after Hibernate has created/updated the schema
+-- (spring.jpa.defer-datasource-initialization); every statement is a no-op once applied.
+--
+-- CREATE EXTENSION needs a superuser or a role with CREATE on the database, and any
+-- failure here stops startup. If the app role lacks it, a DBA runs
+-- CREATE EXTENSION pg_trgm once; the IF NOT EXISTS below is then a no-op.
+-- Indexes are built CONCURRENTLY so writes are not blocked on a large table. A build that
+-- fails part way leaves an INVALID index that IF NOT EXISTS will skip; drop it and rerun.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Normally created by Hibernate (ddl-auto=update); kept so the backfill never runs without it
+ALTER TABLE patients ADD COLUMN IF NOT EXISTS normalized_full_name VARCHAR(152);
+
+-- Backfill rows written before normalized_full_name existed
+UPDATE patients
+SET normalized_full_name = lower(trim(regexp_replace(concat_ws(' ', first_name, middle_name, last_name), '\s+', ' ', 'g')))
+WHERE normalized_full_name IS NULL;
+
+-- PatientRepository.searchByNamePrefix: LIKE 'abc%' OR LIKE '% abc%'
+-- A B-tree (text_pattern_ops) could only serve the first branch, so the trigram index covers both
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_patients_full_name_trgm
+    ON patients USING gin (normalized_full_name gin_trgm_ops);
+
+-- findByEmailIgnoreCase compares upper(email)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_patients_email_upper
+    ON patients (upper(email));
@@ -0,0 +1,35 @@
+package com.schnitzel.Blockchain.search;
+
+import com.schnitzel.Blockchain.entity.Patient;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PatientNameNormalizationTests {
+
+    @Test
+    void joinNameSkipsMissingPartsAndCollapsesWhitespace() {
+        assertEquals("John Smith", Patient.joinName("John", null, "Smith"));
+        assertEquals("John Smith", Patient.joinName("John", "  ", "Smith"));
+        assertEquals("Mary Ann Lee", Patient.joinName(" Mary\t", " Ann ", "Lee  "));
+        assertEquals("De La Cruz", Patient.joinName(null, "De  La", "Cruz"));
+        assertEquals("", Patient.joinName(null, null, null));
+    }
+
+    @Test
+    void normalizeLowerCasesAndCollapsesWhitespace() {
+        assertEquals("maria gar", Patient.normalize("  MARIA \n Gar "));
+        assertEquals("", Patient.normalize("   "));
+        assertEquals("", Patient.normalize(null));
+    }
+
+    @Test
+    void fullNameMatchesJoinName() {
+        Patient patient = new Patient();
+        patient.setFirstName("John");
+        patient.setMiddleName("");
+        patient.setLastName("Smith");
+
+        assertEquals("John Smith", patient.getFullName());
+    }
+}
@@ -0,0 +1,173 @@
+package com.schnitzel.Blockchain.search;
+
+import com.schnitzel.Blockchain.entity.Patient;
+import com.schnitzel.Blockchain.repository.PatientRepository;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.postgresql.PGConnection;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the in-memory prefix index with the indexed database query it replaces
+ * Postgres runs in Testcontainers (Docker required), seeded with the same patients and
+ * indexed by db/patient-search-indexes.sql; the DB side runs PatientRepository.NAME_PREFIX_QUERY
+ * Setup fails if the two paths do not return the same ordered ids
+ *
+ * Run with: mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+ *           -Dexec.args="-cp %classpath org.openjdk.jmh.Main PatientSearchBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class PatientSearchBenchmark {
+
+    private static final String[] FIRST_NAMES = {
+            "james", "maria", "john", "patricia", "robert", "jennifer", "michael", "linda",
+            "william", "elizabeth", "david", "barbara", "richard", "susan", "joseph", "jessica",
+            "thomas", "sarah", "charles", "karen", "jose", "ana", "juan", "rosa"
+    };
+
+    private static final String[] LAST_NAMES = {
+            "smith", "johnson", "williams", "brown", "jones", "garcia", "miller", "davis",
+            "rodriguez", "martinez", "hernandez", "lopez", "gonzalez", "wilson", "anderson",
+            "thomas", "taylor", "moore", "jackson", "martin", "lee", "perez", "thompson", "white",
+            "reyes", "santos", "cruz", "bautista", "delacruz", "villanueva"
+    };
+
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"1000000"})
+    private int patients;
+
+    @Param({"jo", "smi", "maria gar"})
+    private String query;
+
+    private PatientSearchIndex index;
+
+    private PostgreSQLContainer<?> postgres;
+
+    private Connection connection;
+
+    private PreparedStatement dbSearch;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        postgres = new PostgreSQLContainer<>("postgres:15");
+        postgres.start();
+        connection = DriverManager.getConnection(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE patients (id BIGINT PRIMARY KEY, first_name VARCHAR(50), "
+                    + "middle_name VARCHAR(50), last_name VARCHAR(50), email VARCHAR(255), "
+                    + "normalized_full_name VARCHAR(152))");
+        }
+
+        Random random = new Random(42);
+        index = new PatientSearchIndex();
+        StringBuilder rows = new StringBuilder();
+        for (int i = 0; i < patients; i++) {
+            long id = i + 1L;
+            String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)] + (i % 1000);
+            index.put(id, first, null, last);
+            rows.append(id).append('\t').append(first).append("\t\\N\t").append(last).append("\t\\N\t")
+                .append(Patient.normalize(Patient.joinName(first, null, last))).append('\n');
+        }
+        index.markReady();
+
+        connection.unwrap(PGConnection.class).getCopyAPI()
+                .copyIn("COPY patients FROM STDIN", new StringReader(rows.toString()));
+        ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/patient-search-indexes.sql"));
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ANALYZE patients");
+        }
+
+        // Same SQL the repository runs, reading ids only, with the LIMIT/OFFSET Spring Data adds
+        dbSearch = connection.prepareStatement(
+                PatientRepository.NAME_PREFIX_QUERY.replace(":prefix", "?") + " LIMIT ? OFFSET ?");
+
+        for (int page : new int[] {0, 9}) {
+            List<Long> fromIndex = index.search(query, page, PAGE_SIZE);
+            List<Long> fromDb = searchDb(page);
+            if (!fromIndex.equals(fromDb)) {
+                throw new IllegalStateException("Index and DB disagree for '" + query + "' page " + page
+                        + ": " + fromIndex + " vs " + fromDb);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+        postgres.stop();
+    }
+
+    @Benchmark
+    public List<Long> indexFirstPage() {
+        return index.search(query, 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Long> indexTenthPage() {
+        return index.search(query, 9, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Long> dbFirstPage() throws SQLException {
+        return searchDb(0);
+    }
+
+    @Benchmark
+    public List<Long> dbTenthPage() throws SQLException {
+        return searchDb(9);
+    }
+
+    @Benchmark
+    public void fullName(Blackhole blackhole) {
+        blackhole.consume(Patient.joinName("Maria", "  Clara ", "Santos"));
+    }
+
+    // Fetches one extra row, like the index, so both report whether another page exists
+    private List<Long> searchDb(int page) throws SQLException {
+        String prefix = Patient.normalize(query);
+        dbSearch.setString(1, prefix);
+        dbSearch.setString(2, prefix);
+        dbSearch.setString(3, prefix);
+        dbSearch.setInt(4, PAGE_SIZE + 1);
+        dbSearch.setLong(5, (long) page * PAGE_SIZE);
+        List<Long> ids = new ArrayList<>(PAGE_SIZE + 1);
+        try (ResultSet resultSet = dbSearch.executeQuery()) {
+            while (resultSet.next()) {
+                ids.add(resultSet.getLong("id"));
+            }
+        }
+        return ids;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(PatientSearchBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,82 @@
+package com.schnitzel.Blockchain.search;
+
+import com.schnitzel.Blockchain.entity.Patient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PatientSearchIndexListenerTests {
+
+    private PatientSearchIndex index;
+
+    private PatientSearchIndexListener listener;
+
+    @BeforeEach
+    void setUp() {
+        index = new PatientSearchIndex();
+        listener = new PatientSearchIndexListener();
+        ReflectionTestUtils.setField(listener, "patientSearchIndex", index);
+    }
+
+    @AfterEach
+    void clearTransaction() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void appliesImmediatelyWithoutATransaction() {
+        listener.onSave(patient(1L, "John", "Smith"));
+        assertEquals(List.of(1L), index.search("smith", 0, 10));
+
+        listener.onRemove(patient(1L, "John", "Smith"));
+        assertEquals(List.of(), index.search("smith", 0, 10));
+    }
+
+    @Test
+    void waitsForCommitInsideATransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+        Patient patient = patient(1L, "John", "Smith");
+        listener.onSave(patient);
+
+        // Later changes to the entity must not leak into the committed name
+        patient.setLastName("Doe");
+        assertEquals(List.of(), index.search("smith", 0, 10));
+
+        commit();
+        assertEquals(List.of(1L), index.search("smith", 0, 10));
+        assertEquals(List.of(), index.search("doe", 0, 10));
+    }
+
+    @Test
+    void rolledBackWritesNeverReachTheIndex() {
+        index.put(1L, "John", null, "Smith");
+        TransactionSynchronizationManager.initSynchronization();
+        listener.onRemove(patient(1L, "John", "Smith"));
+
+        TransactionSynchronizationManager.clearSynchronization();
+        assertEquals(List.of(1L), index.search("smith", 0, 10));
+    }
+
+    private static void commit() {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+    }
+
+    private static Patient patient(Long id, String firstName, String lastName) {
+        Patient patient = new Patient();
+        patient.setId(id);
+        patient.setFirstName(firstName);
+        patient.setLastName(lastName);
+        return patient;
+    }
+}
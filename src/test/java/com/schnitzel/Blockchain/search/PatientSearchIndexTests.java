@@ -0,0 +1,123 @@
+package com.schnitzel.Blockchain.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PatientSearchIndexTests {
+
+    private PatientSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new PatientSearchIndex();
+        index.put(1L, "John", null, "Smith");
+        index.put(2L, "Joan", "Q", "Johnson");
+        index.put(3L, "Mary", null, "Jones");
+        index.put(4L, "Bob", null, "Smithers");
+    }
+
+    @Test
+    void matchesAnyWordOfTheName() {
+        assertEquals(List.of(1L, 4L), index.search("smi", 0, 10));
+        assertEquals(List.of(2L), index.search("q jo", 0, 10));
+        assertEquals(List.of(1L), index.search("John  S", 0, 10));
+    }
+
+    @Test
+    void ordersByMatchedSuffixAndCountsEachPatientOnce() {
+        // "joan q johnson", "john smith", "johnson" (patient 2 again), "jones"
+        assertEquals(List.of(2L, 1L, 3L), index.search("jo", 0, 10));
+    }
+
+    @Test
+    void pagesSkipEarlierPatientsAndFetchOneExtraId() {
+        assertEquals(List.of(2L, 1L, 3L), index.search("jo", 0, 2));
+        assertEquals(List.of(3L), index.search("jo", 1, 2));
+        assertEquals(List.of(), index.search("jo", 2, 2));
+    }
+
+    @Test
+    void rangeStopsAtTheLastTermWithThePrefix() {
+        index.put(5L, "Smiley", null, "Ann");
+        index.put(6L, "Smj", null, "Ann");
+        index.put(7L, "Asmith", null, "Ann");
+
+        assertEquals(List.of(5L, 1L, 4L), index.search("smi", 0, 10));
+        assertEquals(List.of(1L, 4L), index.search("smith", 0, 10));
+        assertEquals(List.of(), index.search("smithersx", 0, 10));
+    }
+
+    @Test
+    void ordersByCodePointLikeTheDatabase() {
+        // U+1F600 is one code point above U+FF21 but its UTF-16 surrogates sort below it
+        index.put(5L, "Zed", null, "X\uFF21");
+        index.put(6L, "Zed", null, "X\uD83D\uDE00");
+
+        assertEquals(List.of(5L, 6L), index.search("zed x", 0, 10));
+    }
+
+    @Test
+    void blankQueryOrBadPagingReturnsNothing() {
+        assertEquals(List.of(), index.search("   ", 0, 10));
+        assertEquals(List.of(), index.search(null, 0, 10));
+        assertEquals(List.of(), index.search("jo", -1, 10));
+        assertEquals(List.of(), index.search("jo", 0, 0));
+    }
+
+    @Test
+    void renameReplacesEveryStaleSuffix() {
+        index.put(1L, "Jack", null, "Black");
+
+        assertEquals(List.of(4L), index.search("smi", 0, 10));
+        assertEquals(List.of(2L, 3L), index.search("jo", 0, 10));
+        assertEquals(List.of(1L), index.search("black", 0, 10));
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void removeDropsThePatient() {
+        index.remove(4L);
+        index.remove(99L);
+
+        assertEquals(List.of(1L), index.search("smi", 0, 10));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void loadDoesNotOverwriteWritesMadeWhileLoading() {
+        PatientSearchIndex loading = new PatientSearchIndex();
+        loading.beginLoad();
+        loading.put(1L, "Jane", null, "Doe");
+        loading.remove(2L);
+
+        loading.load(1L, "Old", null, "Name");
+        loading.load(2L, "Deleted", null, "Patient");
+        loading.load(3L, "Mary", null, "Jones");
+        loading.markReady();
+
+        assertTrue(loading.isReady());
+        assertEquals(List.of(1L), loading.search("jane", 0, 10));
+        assertEquals(List.of(), loading.search("old", 0, 10));
+        assertEquals(List.of(), loading.search("deleted", 0, 10));
+        assertEquals(List.of(3L), loading.search("mary", 0, 10));
+    }
+
+    @Test
+    void writesAfterTheLoadAreNotRemembered() {
+        PatientSearchIndex loading = new PatientSearchIndex();
+        assertFalse(loading.isReady());
+        loading.beginLoad();
+        loading.put(1L, "Jane", null, "Doe");
+        loading.abortLoad();
+
+        loading.load(1L, "Jane", null, "Smith");
+
+        assertEquals(List.of(1L), loading.search("smith", 0, 10));
+    }
+}
@@ -0,0 +1,151 @@
+package com.schnitzel.Blockchain.search;
+
+import com.schnitzel.Blockchain.entity.Patient;
+import com.schnitzel.Blockchain.repository.PatientRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PatientSearchServiceTests {
+
+    @Mock
+    private PatientRepository patientRepository;
+
+    private PatientSearchIndex index;
+
+    private PatientSearchService service;
+
+    @BeforeEach
+    void setUp() {
+        index = new PatientSearchIndex();
+        index.put(1L, "John", null, "Smith");
+        index.put(2L, "Joan", null, "Smithers");
+        index.put(3L, "Bob", null, "Smits");
+        index.markReady();
+
+        service = new PatientSearchService();
+        ReflectionTestUtils.setField(service, "patientRepository", patientRepository);
+        ReflectionTestUtils.setField(service, "patientSearchIndex", index);
+    }
+
+    @Test
+    void missingRowIsSkippedWithoutTouchingTheIndex() {
+        // Patient 2 deleted and flushed in the caller's transaction, which may still roll back
+        when(patientRepository.findAllById(List.of(1L, 2L, 3L)))
+                .thenReturn(List.of(patient(1L, "John", "Smith"), patient(3L, "Bob", "Smits")));
+
+        Slice<Patient> result = service.searchByName("smi", 0, 20);
+
+        assertEquals(List.of(1L, 3L), ids(result));
+        assertEquals(List.of(1L, 2L, 3L), index.search("smi", 0, 20));
+    }
+
+    @Test
+    void returnsRowsInIndexOrder() {
+        when(patientRepository.findAllById(List.of(1L, 2L, 3L))).thenReturn(List.of(
+                patient(3L, "Bob", "Smits"), patient(1L, "John", "Smith"), patient(2L, "Joan", "Smithers")));
+
+        Slice<Patient> result = service.searchByName("smi", 0, 20);
+
+        assertEquals(List.of(1L, 2L, 3L), ids(result));
+        assertFalse(result.hasNext());
+    }
+
+    @Test
+    void trimsTheExtraIdIntoHasNext() {
+        when(patientRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(
+                patient(2L, "Joan", "Smithers"), patient(1L, "John", "Smith")));
+
+        Slice<Patient> first = service.searchByName("smi", 0, 2);
+
+        assertEquals(List.of(1L, 2L), ids(first));
+        assertTrue(first.hasNext());
+
+        when(patientRepository.findAllById(List.of(3L))).thenReturn(List.of(patient(3L, "Bob", "Smits")));
+
+        Slice<Patient> second = service.searchByName("smi", 1, 2);
+
+        assertEquals(List.of(3L), ids(second));
+        assertFalse(second.hasNext());
+    }
+
+    @Test
+    void fallsBackToTheDatabaseUntilTheIndexIsReady() {
+        ReflectionTestUtils.setField(service, "patientSearchIndex", new PatientSearchIndex());
+        Slice<Patient> fromDb = new SliceImpl<>(List.of(patient(1L, "John", "Smith")), PageRequest.of(0, 20), false);
+        when(patientRepository.searchByNamePrefix("smi", PageRequest.of(0, 20))).thenReturn(fromDb);
+
+        assertEquals(fromDb, service.searchByName("  SMI ", 0, 20));
+    }
+
+    @Test
+    void escapesLikeWildcardsForTheDatabase() {
+        ReflectionTestUtils.setField(service, "patientSearchIndex", new PatientSearchIndex());
+        Slice<Patient> empty = new SliceImpl<>(List.of(), PageRequest.of(0, 20), false);
+        when(patientRepository.searchByNamePrefix("a\\\\b\\%c\\_d", PageRequest.of(0, 20))).thenReturn(empty);
+
+        assertEquals(empty, service.searchByName("a\\b%c_d", 0, 20));
+    }
+
+    @Test
+    void clampsPaging() {
+        ReflectionTestUtils.setField(service, "patientSearchIndex", new PatientSearchIndex());
+
+        service.searchByName("smi", -3, 0);
+        service.searchByName("smi", 0, 1000);
+
+        verify(patientRepository).searchByNamePrefix("smi", PageRequest.of(0, 1));
+        verify(patientRepository).searchByNamePrefix("smi", PageRequest.of(0, 100));
+    }
+
+    @Test
+    void blankOrNullQueriesReturnNothing() {
+        assertTrue(service.searchByName(null, 0, 20).getContent().isEmpty());
+        assertTrue(service.searchByName("   ", 0, 20).getContent().isEmpty());
+        assertTrue(service.searchByDateOfBirth(null).isEmpty());
+        assertTrue(service.searchByPhoneNumber(null).isEmpty());
+        assertTrue(service.searchByPhoneNumber(" ").isEmpty());
+        assertTrue(service.searchByEmail(null).isEmpty());
+        assertTrue(service.searchByEmail("").isEmpty());
+
+        verifyNoInteractions(patientRepository);
+    }
+
+    @Test
+    void normalizesExactMatchInputs() {
+        LocalDate dateOfBirth = LocalDate.of(1990, 5, 1);
+
+        service.searchByPhoneNumber("+63 917-555-0101");
+        service.searchByEmail("  Jane@Example.com ");
+        service.searchByDateOfBirth(dateOfBirth);
+
+        verify(patientRepository).findByPhoneNumber("+639175550101");
+        verify(patientRepository).findByEmailIgnoreCase("Jane@Example.com");
+        verify(patientRepository).findByDateOfBirth(dateOfBirth);
+    }
+
+    private static List<Long> ids(Slice<Patient> slice) {
+        return slice.getContent().stream().map(Patient::getId).toList();
+    }
+
+    private static Patient patient(Long id, String firstName, String lastName) {
+        return Patient.builder().id(id).firstName(firstName).lastName(lastName).build();
+    }
+}